@@ -0,0 +1,30 @@
+package com.ghe.fridgeinvetary.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Expiry and low quantity thresholds shared by the services that flag items.
+ */
+@Component
+public class InventorySettings {
+
+    private final int warningDays;
+    private final BigDecimal lowQuantityThreshold;
+
+    public InventorySettings(@Value("${app.expiry.warning-days:3}") int warningDays,
+                             @Value("${app.quantity.low-threshold:2}") BigDecimal lowQuantityThreshold) {
+        this.warningDays = warningDays;
+        this.lowQuantityThreshold = lowQuantityThreshold;
+    }
+
+    public int getWarningDays() {
+        return warningDays;
+    }
+
+    public BigDecimal getLowQuantityThreshold() {
+        return lowQuantityThreshold;
+    }
+}
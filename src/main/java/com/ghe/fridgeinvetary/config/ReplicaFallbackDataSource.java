@@ -0,0 +1,67 @@
+package com.ghe.fridgeinvetary.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Hands out replica connections, falling back to the primary when the replica fails.
+ * After a failure the replica is skipped for a backoff period, so reads do not each
+ * wait out the replica pool's connection timeout while it is down.
+ */
+public class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final Duration backoff;
+    private final Clock clock;
+    private volatile Instant retryReplicaAt = Instant.MIN;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration backoff) {
+        this(replica, primary, backoff, Clock.systemUTC());
+    }
+
+    ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration backoff, Clock clock) {
+        this.replica = replica;
+        this.primary = primary;
+        this.backoff = backoff;
+        this.clock = clock;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        if (clock.instant().isBefore(retryReplicaAt)) {
+            return source.open(primary);
+        }
+        try {
+            return source.open(replica);
+        } catch (SQLException e) {
+            retryReplicaAt = clock.instant().plus(backoff);
+            log.warn("Replica unavailable, using primary for the next {}: {}", backoff, e.getMessage());
+            return source.open(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -2,7 +2,12 @@ package com.ghe.fridgeinvetary.controller;
 
 import com.ghe.fridgeinvetary.entity.Item;
 import com.ghe.fridgeinvetary.service.CategoryService;
+import com.ghe.fridgeinvetary.service.FragmentCacheService;
+import com.ghe.fridgeinvetary.service.FragmentCacheService.FilterOptions;
+import com.ghe.fridgeinvetary.service.FragmentCacheService.ItemRow;
 import com.ghe.fridgeinvetary.service.ItemService;
+import com.ghe.fridgeinvetary.service.ShoppingListService;
+import com.ghe.fridgeinvetary.service.ShoppingListService.ShoppingListItem;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -20,10 +25,17 @@ public class ItemController {
 
     private final ItemService itemService;
     private final CategoryService categoryService;
+    private final FragmentCacheService fragmentCacheService;
+    private final ShoppingListService shoppingListService;
 
-    public ItemController(ItemService itemService, CategoryService categoryService) {
+    public ItemController(ItemService itemService,
+                          CategoryService categoryService,
+                          FragmentCacheService fragmentCacheService,
+                          ShoppingListService shoppingListService) {
         this.itemService = itemService;
         this.categoryService = categoryService;
+        this.fragmentCacheService = fragmentCacheService;
+        this.shoppingListService = shoppingListService;
     }
 
     // ============ Dashboard ============
@@ -41,23 +53,20 @@ public class ItemController {
                     .toList();
         }
         
-        List<String> locations = itemService.getDistinctLocations();
-        List<String> categories = categoryService.getAllCategories();
-        int warningDays = itemService.getWarningDays();
-        BigDecimal lowQuantityThreshold = itemService.getLowQuantityThreshold();
+        // Card bodies and filter options come from the fragment cache
+        List<ItemRow> rows = fragmentCacheService.getDashboardRows(items);
+        FilterOptions filterOptions = fragmentCacheService.getFilterOptions();
 
         // Count warnings for the header
-        long expiredCount = items.stream().filter(Item::isExpired).count();
-        long expiringSoonCount = items.stream().filter(i -> i.isExpiringSoon(warningDays)).count();
-        long lowQuantityCount = items.stream().filter(i -> i.isLowQuantity(lowQuantityThreshold)).count();
+        long expiredCount = rows.stream().filter(ItemRow::isExpired).count();
+        long expiringSoonCount = rows.stream().filter(ItemRow::isExpiringSoon).count();
+        long lowQuantityCount = rows.stream().filter(ItemRow::isLowQuantity).count();
 
-        model.addAttribute("items", items);
-        model.addAttribute("locations", locations);
-        model.addAttribute("categories", categories);
+        model.addAttribute("items", rows);
+        model.addAttribute("locations", filterOptions.locations());
+        model.addAttribute("categories", filterOptions.categories());
         model.addAttribute("selectedLocation", location);
         model.addAttribute("selectedCategory", category);
-        model.addAttribute("warningDays", warningDays);
-        model.addAttribute("lowQuantityThreshold", lowQuantityThreshold);
         model.addAttribute("expiredCount", expiredCount);
         model.addAttribute("expiringSoonCount", expiringSoonCount);
         model.addAttribute("lowQuantityCount", lowQuantityCount);
@@ -116,6 +125,14 @@ public class ItemController {
         return ResponseEntity.ok(categoryService.getAllCategories());
     }
 
+    // ============ Shopping List API ============
+
+    @GetMapping("/api/shopping-list")
+    @ResponseBody
+    public ResponseEntity<List<ShoppingListItem>> getShoppingList() {
+        return ResponseEntity.ok(shoppingListService.getShoppingList());
+    }
+
     // ============ Edit Item ============
 
     @GetMapping("/edit/{id}")
@@ -143,18 +160,8 @@ public class ItemController {
             return "edit-item";
         }
 
-        return itemService.findById(id)
-                .map(existingItem -> {
-                    existingItem.setName(item.getName());
-                    existingItem.setQuantity(item.getQuantity());
-                    existingItem.setUnit(item.getUnit());
-                    existingItem.setLocation(item.getLocation());
-                    existingItem.setCategory(item.getCategory());
-                    existingItem.setExpirationDate(item.getExpirationDate());
-                    existingItem.setNotes(item.getNotes());
-                    existingItem.setFinished(item.isFinished());
-
-                    itemService.save(existingItem);
+        return itemService.update(id, item)
+                .map(updatedItem -> {
                     redirectAttributes.addFlashAttribute("success", "Item updated successfully!");
                     return "redirect:/";
                 })
@@ -201,7 +208,7 @@ public class ItemController {
     @GetMapping("/history")
     public String showHistory(Model model) {
         List<Item> finishedItems = itemService.findFinishedItems();
-        model.addAttribute("items", finishedItems);
+        model.addAttribute("items", fragmentCacheService.getHistoryRows(finishedItems));
         return "history";
     }
 
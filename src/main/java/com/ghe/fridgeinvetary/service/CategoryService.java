@@ -2,6 +2,7 @@ package com.ghe.fridgeinvetary.service;
 
 import com.ghe.fridgeinvetary.repository.ItemRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,6 +13,7 @@ import java.util.List;
  * When adding an item with the same name, it auto-suggests the previous category.
  */
 @Service
+@Transactional(readOnly = true)
 public class CategoryService {
 
     private final ItemRepository itemRepository;
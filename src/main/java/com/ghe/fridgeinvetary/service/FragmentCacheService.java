@@ -0,0 +1,283 @@
+package com.ghe.fridgeinvetary.service;
+
+import com.ghe.fridgeinvetary.config.InventorySettings;
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches rendered item card bodies and the dashboard filter options.
+ * Card bodies are rendered once per item per day from templates/fragments/item-fragments.html
+ * and reused until the item is changed through ItemService or the date rolls over.
+ * A row is also re-rendered when the loaded item no longer matches its snapshot,
+ * so a read that raced a write cannot pin an outdated card in the cache.
+ * Forms stay in the page templates so CSRF tokens are never cached.
+ */
+@Service
+public class FragmentCacheService {
+
+    private static final String FRAGMENTS_TEMPLATE = "fragments/item-fragments";
+
+    private final ItemRepository itemRepository;
+    private final ITemplateEngine templateEngine;
+    private final InventorySettings settings;
+    private final TransactionOperations transactions;
+    private final Clock clock;
+
+    private final Map<Long, ItemRow> dashboardRows = new ConcurrentHashMap<>();
+    private final Map<Long, ItemRow> historyRows = new ConcurrentHashMap<>();
+    private final Object filterLock = new Object();
+    private volatile FilterOptions filterOptions;
+    private long filterGeneration;
+    private volatile LocalDate cacheDate;
+
+    @Autowired
+    public FragmentCacheService(ItemRepository itemRepository,
+                                ITemplateEngine templateEngine,
+                                InventorySettings settings,
+                                PlatformTransactionManager transactionManager) {
+        this(itemRepository, templateEngine, settings, primaryTransaction(transactionManager),
+                Clock.systemDefaultZone());
+    }
+
+    FragmentCacheService(ItemRepository itemRepository,
+                         ITemplateEngine templateEngine,
+                         InventorySettings settings,
+                         TransactionOperations transactions,
+                         Clock clock) {
+        this.itemRepository = itemRepository;
+        this.templateEngine = templateEngine;
+        this.settings = settings;
+        this.transactions = transactions;
+        this.clock = clock;
+        this.cacheDate = LocalDate.now(clock);
+    }
+
+    // Its own read-write transaction, even when called from inside a read-only one
+    private static TransactionTemplate primaryTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    /**
+     * Get dashboard rows for the given items, rendering only the ones not cached yet.
+     */
+    public List<ItemRow> getDashboardRows(List<Item> items) {
+        checkDayRollover();
+        Locale locale = LocaleContextHolder.getLocale();
+        return items.stream()
+                .map(item -> cachedRow(dashboardRows, item, locale, this::renderDashboardRow))
+                .toList();
+    }
+
+    /**
+     * Get history rows for the given items, rendering only the ones not cached yet.
+     */
+    public List<ItemRow> getHistoryRows(List<Item> items) {
+        checkDayRollover();
+        Locale locale = LocaleContextHolder.getLocale();
+        return items.stream()
+                .map(item -> cachedRow(historyRows, item, locale, this::renderHistoryRow))
+                .toList();
+    }
+
+    /**
+     * Get the locations and categories shown in the dashboard filter bar.
+     * They are only loaded right after a write evicted them, so they are read on the primary:
+     * a replica may not have that write yet, and nothing would evict the stale lists again.
+     * A cache hit needs no transaction and no connection.
+     */
+    public FilterOptions getFilterOptions() {
+        FilterOptions options = filterOptions;
+        if (options != null) {
+            return options;
+        }
+        long generation;
+        synchronized (filterLock) {
+            generation = filterGeneration;
+        }
+        // A read-write transaction, so the read-only routing does not send this to the replica
+        options = transactions.execute(status -> new FilterOptions(itemRepository.findDistinctLocations(),
+                itemRepository.findDistinctCategories()));
+        // Don't keep lists loaded before an eviction that happened while we were reading
+        synchronized (filterLock) {
+            if (generation == filterGeneration) {
+                filterOptions = options;
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Drop cached fragments for an item, right away and again once the current transaction commits.
+     * Called by ItemService on every mutation.
+     */
+    public void evict(Long id) {
+        TransactionCallbacks.runNowAndAfterCommit(() -> {
+            if (id != null) {
+                dashboardRows.remove(id);
+                historyRows.remove(id);
+            }
+            invalidateFilterOptions();
+        });
+    }
+
+    /**
+     * Drop all cached fragments.
+     */
+    public void clear() {
+        dashboardRows.clear();
+        historyRows.clear();
+        invalidateFilterOptions();
+    }
+
+    private void invalidateFilterOptions() {
+        synchronized (filterLock) {
+            filterGeneration++;
+            filterOptions = null;
+        }
+    }
+
+    private ItemRow cachedRow(Map<Long, ItemRow> cache, Item item, Locale locale, RowRenderer renderer) {
+        if (item.getId() == null) {
+            return renderer.render(item, locale);
+        }
+        ItemRow row = cache.get(item.getId());
+        if (row == null || !row.locale.equals(locale) || !row.matches(item)) {
+            row = renderer.render(item, locale);
+            cache.put(item.getId(), row);
+        }
+        return row;
+    }
+
+    private ItemRow renderDashboardRow(Item item, Locale locale) {
+        boolean expired = item.isExpired();
+        boolean expiringSoon = item.isExpiringSoon(settings.getWarningDays());
+        boolean lowQuantity = item.isLowQuantity(settings.getLowQuantityThreshold());
+
+        Context context = new Context(locale);
+        context.setVariable("item", item);
+        context.setVariable("expired", expired);
+        context.setVariable("expiringSoon", expiringSoon);
+        context.setVariable("lowQuantity", lowQuantity);
+        String html = templateEngine.process(FRAGMENTS_TEMPLATE, Set.of("dashboard-item-body"), context);
+
+        return new ItemRow(item, html, locale, expired, expiringSoon, lowQuantity);
+    }
+
+    private ItemRow renderHistoryRow(Item item, Locale locale) {
+        Context context = new Context(locale);
+        context.setVariable("item", item);
+        String html = templateEngine.process(FRAGMENTS_TEMPLATE, Set.of("history-item-body"), context);
+
+        return new ItemRow(item, html, locale, false, false, false);
+    }
+
+    // Expiry badges depend on today's date, so everything is re-rendered after midnight
+    private void checkDayRollover() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(cacheDate)) {
+            synchronized (this) {
+                if (!today.equals(cacheDate)) {
+                    clear();
+                    cacheDate = today;
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowRenderer {
+        ItemRow render(Item item, Locale locale);
+    }
+
+    /**
+     * Filter bar options for the dashboard.
+     */
+    public record FilterOptions(List<String> locations, List<String> categories) {
+    }
+
+    /**
+     * A rendered item card body together with the item snapshot it was rendered from.
+     * Exposes getters so the page templates can use plain property access.
+     */
+    public static final class ItemRow {
+        private final Item item;
+        private final String bodyHtml;
+        private final Locale locale;
+        private final boolean expired;
+        private final boolean expiringSoon;
+        private final boolean lowQuantity;
+
+        private ItemRow(Item item, String bodyHtml, Locale locale,
+                        boolean expired, boolean expiringSoon, boolean lowQuantity) {
+            this.item = item;
+            this.bodyHtml = bodyHtml;
+            this.locale = locale;
+            this.expired = expired;
+            this.expiringSoon = expiringSoon;
+            this.lowQuantity = lowQuantity;
+        }
+
+        private boolean matches(Item current) {
+            return Objects.equals(item.getName(), current.getName())
+                    && item.getQuantity() != null && current.getQuantity() != null
+                    && item.getQuantity().compareTo(current.getQuantity()) == 0
+                    && Objects.equals(item.getUnit(), current.getUnit())
+                    && Objects.equals(item.getLocation(), current.getLocation())
+                    && Objects.equals(item.getCategory(), current.getCategory())
+                    && Objects.equals(item.getPurchaseDate(), current.getPurchaseDate())
+                    && Objects.equals(item.getExpirationDate(), current.getExpirationDate())
+                    && Objects.equals(item.getNotes(), current.getNotes())
+                    && item.isFinished() == current.isFinished();
+        }
+
+        public Item getItem() {
+            return item;
+        }
+
+        public String getBodyHtml() {
+            return bodyHtml;
+        }
+
+        public boolean isExpired() {
+            return expired;
+        }
+
+        public boolean isExpiringSoon() {
+            return expiringSoon;
+        }
+
+        public boolean isLowQuantity() {
+            return lowQuantity;
+        }
+
+        public String getStatusClass() {
+            if (expired) {
+                return "expired";
+            }
+            if (expiringSoon) {
+                return "expiring-soon";
+            }
+            return lowQuantity ? "low-quantity" : "";
+        }
+    }
+}
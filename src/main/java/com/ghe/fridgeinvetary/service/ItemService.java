@@ -1,8 +1,8 @@
 package com.ghe.fridgeinvetary.service;
 
+import com.ghe.fridgeinvetary.config.InventorySettings;
 import com.ghe.fridgeinvetary.entity.Item;
 import com.ghe.fridgeinvetary.repository.ItemRepository;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,41 +16,77 @@ import java.util.Optional;
 public class ItemService {
 
     private final ItemRepository itemRepository;
-    private final int warningDays;
-    private final BigDecimal lowQuantityThreshold;
+    private final FragmentCacheService fragmentCacheService;
+    private final ShoppingListService shoppingListService;
+    private final InventorySettings settings;
 
     public ItemService(ItemRepository itemRepository,
-                       @Value("${app.expiry.warning-days:3}") int warningDays,
-                       @Value("${app.quantity.low-threshold:2}") BigDecimal lowQuantityThreshold) {
+                       FragmentCacheService fragmentCacheService,
+                       ShoppingListService shoppingListService,
+                       InventorySettings settings) {
         this.itemRepository = itemRepository;
-        this.warningDays = warningDays;
-        this.lowQuantityThreshold = lowQuantityThreshold;
+        this.fragmentCacheService = fragmentCacheService;
+        this.shoppingListService = shoppingListService;
+        this.settings = settings;
     }
 
     public int getWarningDays() {
-        return warningDays;
+        return settings.getWarningDays();
     }
 
     public BigDecimal getLowQuantityThreshold() {
-        return lowQuantityThreshold;
+        return settings.getLowQuantityThreshold();
     }
 
     public Item save(Item item) {
-        return itemRepository.save(item);
+        Item saved = itemRepository.save(item);
+        fragmentCacheService.evict(saved.getId());
+        shoppingListService.onItemSaved(saved);
+        return saved;
     }
 
     public List<Item> saveAll(List<Item> items) {
-        return itemRepository.saveAll(items);
+        List<Item> saved = itemRepository.saveAll(items);
+        saved.forEach(item -> {
+            fragmentCacheService.evict(item.getId());
+            shoppingListService.onItemSaved(item);
+        });
+        return saved;
     }
 
+    /**
+     * Find a single item on the primary. Used right before edits, often just after the item
+     * was added, so it must not read from a replica that may not have the item yet.
+     */
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
 
+    /**
+     * Copy the editable fields onto the stored item and save it, loading the item
+     * in the same transaction so the update never starts from a stale copy.
+     */
+    public Optional<Item> update(Long id, Item changes) {
+        return itemRepository.findById(id)
+                .map(existingItem -> {
+                    existingItem.setName(changes.getName());
+                    existingItem.setQuantity(changes.getQuantity());
+                    existingItem.setUnit(changes.getUnit());
+                    existingItem.setLocation(changes.getLocation());
+                    existingItem.setCategory(changes.getCategory());
+                    existingItem.setExpirationDate(changes.getExpirationDate());
+                    existingItem.setNotes(changes.getNotes());
+                    existingItem.setFinished(changes.isFinished());
+                    return save(existingItem);
+                });
+    }
+
+    @Transactional(readOnly = true)
     public List<Item> findAllActive() {
         return itemRepository.findByFinishedFalseOrderByExpirationDateAsc();
     }
 
+    @Transactional(readOnly = true)
     public List<Item> findByLocation(String location) {
         if (location == null || location.isBlank() || "all".equalsIgnoreCase(location)) {
             return findAllActive();
@@ -58,10 +94,12 @@ public class ItemService {
         return itemRepository.findByFinishedFalseAndLocationOrderByExpirationDateAsc(location);
     }
 
+    @Transactional(readOnly = true)
     public List<Item> findFinishedItems() {
         return itemRepository.findByFinishedTrueOrderByPurchaseDateDesc();
     }
 
+    @Transactional(readOnly = true)
     public List<String> getDistinctLocations() {
         return itemRepository.findDistinctLocations();
     }
@@ -83,7 +121,7 @@ public class ItemService {
             item.setQuantity(newQuantity);
         }
 
-        return itemRepository.save(item);
+        return save(item);
     }
 
     /**
@@ -93,7 +131,7 @@ public class ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Item not found: " + id));
         item.setFinished(true);
-        return itemRepository.save(item);
+        return save(item);
     }
 
     /**
@@ -103,11 +141,13 @@ public class ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Item not found: " + id));
         item.setFinished(false);
-        return itemRepository.save(item);
+        return save(item);
     }
 
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        fragmentCacheService.evict(id);
+        shoppingListService.onItemDeleted(id);
     }
 
     // ============ Methods for scheduled jobs / expiry checks ============
@@ -116,6 +156,7 @@ public class ItemService {
      * Get all expired items (expiration date before today).
      * Designed for use by a scheduled job.
      */
+    @Transactional(readOnly = true)
     public List<Item> getExpiredItems() {
         return itemRepository.findExpiredItems(LocalDate.now());
     }
@@ -124,9 +165,10 @@ public class ItemService {
      * Get items expiring within the configured warning period.
      * Designed for use by a scheduled job.
      */
+    @Transactional(readOnly = true)
     public List<Item> getItemsExpiringSoon() {
         LocalDate today = LocalDate.now();
-        LocalDate warningDate = today.plusDays(warningDays);
+        LocalDate warningDate = today.plusDays(getWarningDays());
         return itemRepository.findItemsExpiringSoon(today, warningDate);
     }
 
@@ -134,6 +176,7 @@ public class ItemService {
      * Get all items expiring by a specific date.
      * Designed for use by a scheduled job.
      */
+    @Transactional(readOnly = true)
     public List<Item> getItemsExpiringByDate(LocalDate date) {
         return itemRepository.findItemsExpiringByDate(date);
     }
@@ -142,6 +185,7 @@ public class ItemService {
      * Check expiring items - can be called by a scheduled job.
      * Returns a summary of expired and expiring soon items.
      */
+    @Transactional(readOnly = true)
     public ExpiryCheckResult checkExpiringItems() {
         List<Item> expired = getExpiredItems();
         List<Item> expiringSoon = getItemsExpiringSoon();
@@ -0,0 +1,266 @@
+package com.ghe.fridgeinvetary.service;
+
+import com.ghe.fridgeinvetary.config.InventorySettings;
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds a restock list from the current inventory.
+ * Items are grouped by normalized name and unit, so "Milk" in the fridge and "milk " in the pantry
+ * count as one product. Only active items are counted, so a product drops off once all of its
+ * items are finished. A product ends up on the list when its remaining quantity is at or below
+ * the low quantity threshold, or when some of it is expired or expiring soon, and only if
+ * topping the usable stock up to the restock target leaves something to buy.
+ *
+ * Totals are kept in memory and updated by ItemService on every committed mutation,
+ * so listing only walks the products instead of rescanning the items table.
+ * The table is read once, on first use, from the primary.
+ */
+@Service
+public class ShoppingListService {
+
+    private final ItemRepository itemRepository;
+    private final InventorySettings settings;
+    private final BigDecimal restockTarget;
+    private final TransactionOperations transactions;
+
+    private final Map<Long, ItemSnapshot> itemsById = new HashMap<>();
+    private final Map<ProductKey, ProductTotals> products = new HashMap<>();
+    private boolean loaded = false;
+
+    @Autowired
+    public ShoppingListService(ItemRepository itemRepository,
+                               InventorySettings settings,
+                               @Value("${app.shopping.restock-multiplier:2}") BigDecimal restockMultiplier,
+                               PlatformTransactionManager transactionManager) {
+        this(itemRepository, settings, restockMultiplier, primaryTransaction(transactionManager));
+    }
+
+    ShoppingListService(ItemRepository itemRepository,
+                        InventorySettings settings,
+                        BigDecimal restockMultiplier,
+                        TransactionOperations transactions) {
+        this.itemRepository = itemRepository;
+        this.settings = settings;
+        this.restockTarget = settings.getLowQuantityThreshold().multiply(restockMultiplier);
+        this.transactions = transactions;
+    }
+
+    // Its own read-write transaction, even when called from inside a read-only one
+    private static TransactionTemplate primaryTransaction(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    /**
+     * Get the products that need restocking, sorted by name.
+     */
+    public synchronized List<ShoppingListItem> getShoppingList() {
+        ensureLoaded();
+        LocalDate warningDate = LocalDate.now().plusDays(settings.getWarningDays());
+
+        List<ShoppingListItem> list = new ArrayList<>();
+        for (ProductTotals totals : products.values()) {
+            BigDecimal expiring = totals.quantityExpiringBy(warningDate);
+            boolean lowStock = totals.remaining.compareTo(settings.getLowQuantityThreshold()) <= 0;
+            boolean expiringSoon = expiring.signum() > 0;
+            if (!lowStock && !expiringSoon) {
+                continue;
+            }
+
+            // Top up the stock that will still be usable to the restock target
+            BigDecimal usable = totals.remaining.subtract(expiring);
+            BigDecimal suggested = restockTarget.subtract(usable);
+            // Enough usable stock left despite what expires, so there is nothing to buy
+            if (suggested.signum() <= 0) {
+                continue;
+            }
+
+            ItemSnapshot latest = totals.latestItem();
+            list.add(new ShoppingListItem(
+                    latest.name,
+                    latest.unit,
+                    totals.remaining.stripTrailingZeros(),
+                    suggested.stripTrailingZeros(),
+                    List.copyOf(totals.locations.keySet()),
+                    totals.earliestExpiration(),
+                    lowStock,
+                    expiringSoon));
+        }
+        list.sort(Comparator.comparing(i -> i.name().toLowerCase(Locale.ROOT)));
+        return list;
+    }
+
+    /**
+     * Apply a saved item to the totals once the current transaction commits.
+     * Called by ItemService on every save.
+     */
+    public void onItemSaved(Item item) {
+        if (item.getId() == null) {
+            return;
+        }
+        // Copy the state now, the entity may change before commit; finished items leave the totals
+        ItemSnapshot snapshot = item.isFinished() ? null : ItemSnapshot.of(item);
+        Long id = item.getId();
+        TransactionCallbacks.runAfterCommit(() -> apply(id, snapshot));
+    }
+
+    /**
+     * Remove a deleted item from the totals once the current transaction commits.
+     */
+    public void onItemDeleted(Long id) {
+        TransactionCallbacks.runAfterCommit(() -> apply(id, null));
+    }
+
+    private synchronized void apply(Long id, ItemSnapshot snapshot) {
+        // Before the first load there is nothing to update; the load will see the committed state
+        if (!loaded) {
+            return;
+        }
+        ItemSnapshot previous = snapshot == null ? itemsById.remove(id) : itemsById.put(id, snapshot);
+        if (previous != null) {
+            ProductTotals totals = products.get(previous.key);
+            totals.remove(previous);
+            if (totals.isEmpty()) {
+                products.remove(previous.key);
+            }
+        }
+        if (snapshot != null) {
+            products.computeIfAbsent(snapshot.key, k -> new ProductTotals()).add(snapshot);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        // Commits before this point were skipped by apply(), so the load must see all of them:
+        // a read-write transaction keeps it on the primary instead of a replica that may lag
+        List<Item> activeItems = transactions.execute(
+                status -> itemRepository.findByFinishedFalseOrderByExpirationDateAsc());
+        for (Item item : activeItems) {
+            ItemSnapshot snapshot = ItemSnapshot.of(item);
+            itemsById.put(item.getId(), snapshot);
+            products.computeIfAbsent(snapshot.key, k -> new ProductTotals()).add(snapshot);
+        }
+        loaded = true;
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record ProductKey(String name, String unit) {
+    }
+
+    /**
+     * The parts of an active item the totals depend on.
+     */
+    private record ItemSnapshot(Long id, ProductKey key, String name, String unit, String location,
+                                BigDecimal quantity, LocalDate expirationDate) {
+        static ItemSnapshot of(Item item) {
+            return new ItemSnapshot(
+                    item.getId(),
+                    new ProductKey(normalize(item.getName()), normalize(item.getUnit())),
+                    item.getName() == null ? "" : item.getName().trim(),
+                    item.getUnit() == null ? "" : item.getUnit().trim(),
+                    item.getLocation(),
+                    item.getQuantity() != null ? item.getQuantity() : BigDecimal.ZERO,
+                    item.getExpirationDate());
+        }
+    }
+
+    /**
+     * Running totals for one product. Locations and expiration dates are kept as counted
+     * multisets so that removing an item is as cheap as adding one.
+     */
+    private static final class ProductTotals {
+        // In the order they were last saved, so the name and unit shown follow the latest entry
+        private final Map<Long, ItemSnapshot> items = new LinkedHashMap<>();
+        private BigDecimal remaining = BigDecimal.ZERO;
+        private final TreeMap<String, Integer> locations = new TreeMap<>();
+        private final TreeMap<LocalDate, BigDecimal> quantityByExpiration = new TreeMap<>();
+
+        void add(ItemSnapshot item) {
+            items.put(item.id, item);
+            remaining = remaining.add(item.quantity);
+            if (item.location != null) {
+                locations.merge(item.location, 1, Integer::sum);
+            }
+            if (item.expirationDate != null && item.quantity.signum() > 0) {
+                quantityByExpiration.merge(item.expirationDate, item.quantity, BigDecimal::add);
+            }
+        }
+
+        void remove(ItemSnapshot item) {
+            items.remove(item.id);
+            remaining = remaining.subtract(item.quantity);
+            if (item.location != null) {
+                locations.computeIfPresent(item.location, (k, count) -> count > 1 ? count - 1 : null);
+            }
+            if (item.expirationDate != null && item.quantity.signum() > 0) {
+                quantityByExpiration.computeIfPresent(item.expirationDate, (k, quantity) -> {
+                    BigDecimal left = quantity.subtract(item.quantity);
+                    return left.signum() > 0 ? left : null;
+                });
+            }
+        }
+
+        boolean isEmpty() {
+            return items.isEmpty();
+        }
+
+        ItemSnapshot latestItem() {
+            ItemSnapshot latest = null;
+            for (ItemSnapshot item : items.values()) {
+                latest = item;
+            }
+            return latest;
+        }
+
+        // Expired items count too, they are on or before any warning date
+        BigDecimal quantityExpiringBy(LocalDate warningDate) {
+            BigDecimal total = BigDecimal.ZERO;
+            for (BigDecimal quantity : quantityByExpiration.headMap(warningDate, true).values()) {
+                total = total.add(quantity);
+            }
+            return total;
+        }
+
+        LocalDate earliestExpiration() {
+            return quantityByExpiration.isEmpty() ? null : quantityByExpiration.firstKey();
+        }
+    }
+
+    /**
+     * One line of the shopping list.
+     */
+    public record ShoppingListItem(String name,
+                                   String unit,
+                                   BigDecimal remainingQuantity,
+                                   BigDecimal suggestedQuantity,
+                                   List<String> locations,
+                                   LocalDate earliestExpiration,
+                                   boolean lowStock,
+                                   boolean expiringSoon) {
+    }
+}
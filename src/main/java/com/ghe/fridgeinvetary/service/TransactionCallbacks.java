@@ -0,0 +1,46 @@
+package com.ghe.fridgeinvetary.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for services that keep in-memory state in step with committed item changes.
+ */
+final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Run the action once the current transaction commits, or right away without a transaction.
+     * Nothing runs if the transaction rolls back.
+     */
+    static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(afterCommit(action));
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Run the action right away and again once the current transaction commits.
+     * Meant for cache eviction: a reader that loads the old state before the commit
+     * cannot leave it cached.
+     */
+    static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(afterCommit(action));
+        }
+    }
+
+    private static TransactionSynchronization afterCommit(Runnable action) {
+        return new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        };
+    }
+}
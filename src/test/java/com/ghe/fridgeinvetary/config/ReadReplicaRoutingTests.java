@@ -0,0 +1,161 @@
+package com.ghe.fridgeinvetary.config;
+
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.repository.ItemRepository;
+import com.ghe.fridgeinvetary.service.FragmentCacheService;
+import com.ghe.fridgeinvetary.service.ItemService;
+import com.ghe.fridgeinvetary.service.ShoppingListService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the app against two in-memory H2 databases standing in for primary and replica.
+ * Nothing is replicated between them, so the replica behaves like one that lags forever.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.h2.console.enabled=false"
+})
+class ReadReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private final JdbcTemplate primaryJdbc = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+    private final JdbcTemplate replicaJdbc = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private FragmentCacheService fragmentCacheService;
+
+    @Autowired
+    private ShoppingListService shoppingListService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void resetDatabases() {
+        // Hibernate only creates the schema on the primary
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS items ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, "
+                + "quantity NUMERIC(10,2) NOT NULL, "
+                + "unit VARCHAR(255) NOT NULL, "
+                + "location VARCHAR(255) NOT NULL, "
+                + "category VARCHAR(255), "
+                + "purchase_date TIMESTAMP(6) NOT NULL, "
+                + "expiration_date DATE, "
+                + "notes VARCHAR(500), "
+                + "finished BOOLEAN NOT NULL)");
+        replicaJdbc.update("DELETE FROM items");
+        itemRepository.deleteAll();
+        fragmentCacheService.clear();
+    }
+
+    @Test
+    void replicaUrlActivatesReadWriteSplit() {
+        assertThat(context.getBeansOfType(DataSourceConfig.class)).hasSize(1);
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+    }
+
+    @Test
+    void savesGoToPrimaryAndReadOnlyReadsGoToReplica() {
+        itemService.save(item("Milk", "fridge"));
+
+        assertThat(countItems(primaryJdbc)).isEqualTo(1);
+        assertThat(countItems(replicaJdbc)).isZero();
+        assertThat(itemService.findAllActive()).isEmpty();
+
+        replicaJdbc.update("INSERT INTO items (name, quantity, unit, location, purchase_date, finished) "
+                + "VALUES ('Replica Milk', 1, 'L', 'fridge', CURRENT_TIMESTAMP, FALSE)");
+
+        assertThat(itemService.findAllActive()).extracting(Item::getName).containsExactly("Replica Milk");
+    }
+
+    @Test
+    void editsReadTheItemFromThePrimary() {
+        Long id = itemService.save(item("Milk", "fridge")).getId();
+
+        assertThat(itemService.findById(id)).isPresent();
+        assertThat(itemService.update(id, item("Oat Milk", "fridge"))).isPresent();
+
+        assertThat(primaryJdbc.queryForObject("SELECT name FROM items WHERE id = ?", String.class, id))
+                .isEqualTo("Oat Milk");
+    }
+
+    @Test
+    void filterOptionsIncludeWritesTheReplicaHasNotSeen() {
+        itemService.save(item("Milk", "fridge"));
+        assertThat(inReadOnlyTransaction(fragmentCacheService::getFilterOptions).locations())
+                .containsExactly("fridge");
+
+        itemService.save(item("Paint", "garage"));
+
+        assertThat(inReadOnlyTransaction(fragmentCacheService::getFilterOptions).locations())
+                .containsExactly("fridge", "garage");
+    }
+
+    // A fresh context, so the shopping list has not loaded its totals yet
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
+    void shoppingListLoadIncludesWritesTheReplicaHasNotSeen() {
+        itemService.save(item("Milk", "fridge"));
+
+        assertThat(inReadOnlyTransaction(shoppingListService::getShoppingList))
+                .extracting(ShoppingListService.ShoppingListItem::name)
+                .containsExactly("Milk");
+    }
+
+    // Callers already in a read-only transaction would otherwise pull cache loads onto the replica
+    private <T> T inReadOnlyTransaction(Supplier<T> action) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> action.get());
+    }
+
+    private static int countItems(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM items", Integer.class);
+    }
+
+    private static Item item(String name, String location) {
+        Item item = new Item();
+        item.setName(name);
+        item.setQuantity(BigDecimal.ONE);
+        item.setUnit("pcs");
+        item.setLocation(location);
+        return item;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ghe.fridgeinvetary.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaFallbackDataSourceTests {
+
+    private final DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", "");
+    private final DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void usesReplicaWhenItIsUp() throws SQLException {
+        DataSource dataSource = new ReplicaFallbackDataSource(replica, primary, Duration.ofSeconds(30), clock);
+
+        assertThat(connectedUrl(dataSource)).contains("replica");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() throws SQLException {
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/replica", "sa", "");
+        DataSource dataSource = new ReplicaFallbackDataSource(unreachable, primary, Duration.ofSeconds(30), clock);
+
+        assertThat(connectedUrl(dataSource)).contains("primary");
+    }
+
+    @Test
+    void skipsReplicaDuringBackoffAfterFailure() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("connection timeout"));
+        DataSource dataSource = new ReplicaFallbackDataSource(failing, primary, Duration.ofSeconds(30), clock);
+
+        connectedUrl(dataSource);
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(connectedUrl(dataSource)).contains("primary");
+        verify(failing, times(1)).getConnection();
+
+        clock.advance(Duration.ofSeconds(30));
+        connectedUrl(dataSource);
+        verify(failing, times(2)).getConnection();
+    }
+
+    private String connectedUrl(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
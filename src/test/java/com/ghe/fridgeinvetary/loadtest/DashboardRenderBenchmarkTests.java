@@ -0,0 +1,209 @@
+package com.ghe.fridgeinvetary.loadtest;
+
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.service.CategoryService;
+import com.ghe.fridgeinvetary.service.FragmentCacheService;
+import com.ghe.fridgeinvetary.service.ItemService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Render time and allocation per page for the dashboard and history on a large inventory.
+ * The baseline is the page as it was before the fragment cache: the original templates,
+ * kept under templates/benchmark, rendering every card inline on every request.
+ * It is compared with the cached pages, with the fragment cache cleared before each request (cold)
+ * and with it filled (warm).
+ * Excluded from the normal build; run with: ./mvnw -Pload-test test -Dtest=DashboardRenderBenchmarkTests
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:render-benchmark;DB_CLOSE_DELAY=-1")
+@Import(DashboardRenderBenchmarkTests.BaselinePages.class)
+class DashboardRenderBenchmarkTests {
+
+    private static final String[] NAMES = {"Milk", "Eggs", "Butter", "Yogurt", "Cheese", "Chicken", "Apples",
+            "Carrots", "Tomatoes", "Bread", "Rice", "Pasta", "Orange Juice", "Ham", "Spinach", "Salmon"};
+    private static final String[] LOCATIONS = {"fridge", "freezer", "pantry"};
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private FragmentCacheService fragmentCacheService;
+
+    @Value("${loadtest.render.items}")
+    private int renderItems;
+
+    @Value("${loadtest.render.iterations}")
+    private int iterations;
+
+    @Value("${loadtest.random-seed}")
+    private long randomSeed;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        if (itemService.findAllActive().isEmpty()) {
+            seed();
+        }
+    }
+
+    @Test
+    void dashboardRender() throws Exception {
+        compare("/", "/benchmark/baseline");
+    }
+
+    @Test
+    void historyRender() throws Exception {
+        compare("/history", "/benchmark/baseline/history");
+    }
+
+    private void compare(String page, String baselinePage) throws Exception {
+        assertThat(countCards(render(page, false)))
+                .as("cards on %s and on the baseline page", page)
+                .isEqualTo(countCards(render(baselinePage, false)))
+                .isPositive();
+
+        Measurement baseline = measure(baselinePage, false);
+        Measurement cold = measure(page, true);
+        Measurement warm = measure(page, false);
+
+        System.out.printf("%n=== %s, %d items ===%n", page, renderItems);
+        System.out.printf("%-10s %10s %12s%n", "render", "ms/page", "MB/page");
+        System.out.printf("%-10s %10.1f %12.1f%n", "baseline", baseline.millis, baseline.megabytes);
+        System.out.printf("%-10s %10.1f %12.1f%n", "cold", cold.millis, cold.megabytes);
+        System.out.printf("%-10s %10.1f %12.1f%n", "warm", warm.millis, warm.megabytes);
+
+        assertThat(warm.megabytes)
+                .as("allocation per page for %s with a warm fragment cache, against the baseline", page)
+                .isLessThan(baseline.megabytes);
+    }
+
+    private Measurement measure(String page, boolean cold) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // One untimed request to warm up the JIT and, for the warm run, the cache
+        render(page, cold);
+
+        long nanos = 0;
+        long bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            if (cold) {
+                fragmentCacheService.clear();
+            }
+            // MockMvc handles the request on this thread, so its allocation is attributable
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            mockMvc.perform(get(page).with(user("fridge"))).andExpect(status().isOk());
+            nanos += System.nanoTime() - started;
+            bytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        return new Measurement(nanos / 1_000_000.0 / iterations, bytes / 1_048_576.0 / iterations);
+    }
+
+    private String render(String page, boolean cold) throws Exception {
+        if (cold) {
+            fragmentCacheService.clear();
+        }
+        return mockMvc.perform(get(page).with(user("fridge")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private static int countCards(String html) {
+        return html.split("<article ", -1).length - 1;
+    }
+
+    // Four out of five items active, the rest in history
+    private void seed() {
+        Random random = new Random(randomSeed);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < renderItems; i++) {
+            Item item = new Item();
+            item.setName(NAMES[random.nextInt(NAMES.length)]);
+            item.setQuantity(BigDecimal.valueOf(1 + random.nextInt(12)));
+            item.setUnit("pcs");
+            item.setLocation(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+            item.setCategory("Groceries");
+            item.setExpirationDate(LocalDate.now().plusDays(random.nextInt(35) - 5));
+            item.setFinished(i % 5 == 0);
+            items.add(item);
+        }
+        itemService.saveAll(items);
+    }
+
+    private record Measurement(double millis, double megabytes) {
+    }
+
+    /**
+     * The dashboard and history handlers as they were before the fragment cache.
+     */
+    @Controller
+    static class BaselinePages {
+
+        private final ItemService itemService;
+        private final CategoryService categoryService;
+
+        BaselinePages(ItemService itemService, CategoryService categoryService) {
+            this.itemService = itemService;
+            this.categoryService = categoryService;
+        }
+
+        @GetMapping("/benchmark/baseline")
+        String dashboard(Model model) {
+            List<Item> items = itemService.findByLocation(null);
+            int warningDays = itemService.getWarningDays();
+            BigDecimal lowQuantityThreshold = itemService.getLowQuantityThreshold();
+
+            model.addAttribute("items", items);
+            model.addAttribute("locations", itemService.getDistinctLocations());
+            model.addAttribute("categories", categoryService.getAllCategories());
+            model.addAttribute("selectedLocation", null);
+            model.addAttribute("selectedCategory", null);
+            model.addAttribute("warningDays", warningDays);
+            model.addAttribute("lowQuantityThreshold", lowQuantityThreshold);
+            model.addAttribute("expiredCount", items.stream().filter(Item::isExpired).count());
+            model.addAttribute("expiringSoonCount", items.stream().filter(i -> i.isExpiringSoon(warningDays)).count());
+            model.addAttribute("lowQuantityCount",
+                    items.stream().filter(i -> i.isLowQuantity(lowQuantityThreshold)).count());
+            return "benchmark/baseline-dashboard";
+        }
+
+        @GetMapping("/benchmark/baseline/history")
+        String history(Model model) {
+            model.addAttribute("items", itemService.findFinishedItems());
+            return "benchmark/baseline-history";
+        }
+    }
+}
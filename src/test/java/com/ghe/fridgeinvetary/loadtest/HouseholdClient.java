@@ -0,0 +1,128 @@
+package com.ghe.fridgeinvetary.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * One simulated household member: its own session cookie and CSRF token,
+ * obtained through the real form login.
+ */
+class HouseholdClient {
+
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Pattern CONSUME_ACTION = Pattern.compile("action=\"/consume/(\\d+)\"");
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private String csrfToken;
+    private List<Long> visibleItemIds = new ArrayList<>();
+
+    HouseholdClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Log in via the /login form and pick up the CSRF token for later POSTs.
+     */
+    void login(String password) throws IOException, InterruptedException {
+        String loginToken = extractCsrf(get("/login").body());
+        HttpResponse<String> response = post("/login", Map.of(
+                "username", "fridge",
+                "password", password,
+                "_csrf", loginToken));
+        String location = response.headers().firstValue("Location").orElse("");
+        if (response.statusCode() != 302 || location.contains("/login")) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + location);
+        }
+        // The token is rotated on login, so fetch it again from an authenticated page
+        String dashboard = get("/").body();
+        csrfToken = extractCsrf(dashboard);
+        rememberVisibleItems(dashboard);
+    }
+
+    /**
+     * Remember which active items the last dashboard page showed, for later consume/finish calls.
+     */
+    void rememberVisibleItems(String dashboardHtml) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = CONSUME_ACTION.matcher(dashboardHtml);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        visibleItemIds = ids;
+    }
+
+    void forgetVisibleItem(long id) {
+        visibleItemIds.remove(Long.valueOf(id));
+    }
+
+    List<Long> visibleItemIds() {
+        return visibleItemIds;
+    }
+
+    HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> postForm(String path, Map<String, String> fields) throws IOException, InterruptedException {
+        Map<String, String> withToken = new LinkedHashMap<>(fields);
+        withToken.put("_csrf", csrfToken);
+        return post(path, withToken);
+    }
+
+    private HttpResponse<String> post(String path, Map<String, String> fields) throws IOException, InterruptedException {
+        String body = fields.entrySet().stream()
+                .map(e -> encode(e.getKey()) + "=" + encode(e.getValue()))
+                .collect(Collectors.joining("&"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * A response counts as successful unless it failed or bounced back to the login page.
+     */
+    static boolean isSuccess(HttpResponse<String> response) {
+        int status = response.statusCode();
+        String location = response.headers().firstValue("Location").orElse("");
+        return status < 400 && !location.contains("/login");
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String extractCsrf(String html) {
+        Matcher matcher = CSRF_INPUT.matcher(html);
+        if (!matcher.find()) {
+            throw new IllegalStateException("No CSRF token found in page");
+        }
+        return matcher.group(1);
+    }
+}
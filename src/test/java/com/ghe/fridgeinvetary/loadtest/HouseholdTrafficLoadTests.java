@@ -0,0 +1,289 @@
+package com.ghe.fridgeinvetary.loadtest;
+
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.loadtest.LatencyRecorder.EndpointStats;
+import com.ghe.fridgeinvetary.service.ItemService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP load test with a household/shop traffic mix against a seeded in-memory database.
+ * Every measured run starts from the same generated inventory, and each virtual user draws
+ * its actions from its own Random seeded from loadtest.random-seed, so runs are repeatable.
+ * Excluded from the normal build; run with: ./mvnw -Pload-test test
+ * Settings and SLOs live in src/test/resources/application-loadtest.properties
+ * and can be overridden with -Dloadtest.* system properties.
+ */
+@Tag("load")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HouseholdTrafficLoadTests {
+
+    private static final String[] NAMES = {"Milk", "Eggs", "Butter", "Yogurt", "Cheese", "Chicken", "Apples",
+            "Carrots", "Tomatoes", "Bread", "Rice", "Pasta", "Orange Juice", "Ham", "Spinach", "Salmon"};
+    private static final String[] LOCATIONS = {"fridge", "freezer", "pantry"};
+    private static final String[] CATEGORIES = {"Dairy", "Meat", "Produce", "Bakery", "Dry goods", "Drinks"};
+    private static final String[] UNITS = {"pcs", "g", "kg", "ml", "L"};
+
+    /**
+     * Weighted traffic mix: mostly browsing, with the occasional grocery run or cooking session.
+     */
+    enum Action {
+        DASHBOARD(35),
+        DASHBOARD_FILTERED(20),
+        SUGGEST_CATEGORY(12),
+        HISTORY(8),
+        ADD_ITEM(10),
+        CONSUME(10),
+        FINISH(5);
+
+        private final int weight;
+
+        Action(int weight) {
+            this.weight = weight;
+        }
+
+        static Action pick(Random random) {
+            int total = 0;
+            for (Action action : values()) {
+                total += action.weight;
+            }
+            int roll = random.nextInt(total);
+            for (Action action : values()) {
+                roll -= action.weight;
+                if (roll < 0) {
+                    return action;
+                }
+            }
+            return DASHBOARD;
+        }
+    }
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Value("${app.security.password}")
+    private String password;
+
+    @Value("${loadtest.random-seed}")
+    private long randomSeed;
+
+    @Value("${loadtest.seed-items}")
+    private int seedItems;
+
+    @Value("${loadtest.concurrency-levels}")
+    private List<Integer> concurrencyLevels;
+
+    @Value("${loadtest.warmup-seconds}")
+    private int warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private int durationSeconds;
+
+    @Value("${loadtest.slo.concurrency}")
+    private int sloConcurrency;
+
+    @Value("${loadtest.slo.max-error-rate}")
+    private double maxErrorRate;
+
+    @Value("${loadtest.report-file}")
+    private Path reportFile;
+
+    @Test
+    void householdTrafficMeetsSlo() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add("concurrency,endpoint,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms");
+        Map<String, EndpointStats> sloLevelStats = null;
+
+        for (int concurrency : concurrencyLevels) {
+            // Adds, consumes and finishes change the inventory, so each run starts from a fresh seed
+            resetInventory();
+            runLevel(concurrency, warmupSeconds);
+            resetInventory();
+            LatencyRecorder recorder = runLevel(concurrency, durationSeconds);
+            Map<String, EndpointStats> stats = recorder.summarize(durationSeconds);
+
+            System.out.printf("%n=== %d concurrent users ===%n", concurrency);
+            System.out.printf("%-20s %8s %7s %10s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms");
+            stats.forEach((endpoint, s) -> {
+                System.out.printf("%-20s %8d %7d %10.1f %9.1f %9.1f %9.1f%n",
+                        endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99());
+                report.add(String.format("%d,%s,%d,%d,%.1f,%.1f,%.1f,%.1f",
+                        concurrency, endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99()));
+            });
+
+            if (concurrency == sloConcurrency) {
+                sloLevelStats = stats;
+            }
+        }
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.write(reportFile, report);
+        System.out.printf("%nSaturation curve written to %s%n", reportFile.toAbsolutePath());
+
+        assertThat(sloLevelStats)
+                .as("loadtest.slo.concurrency must be one of loadtest.concurrency-levels")
+                .isNotNull();
+        sloLevelStats.forEach((endpoint, s) -> {
+            assertThat(s.errorRate())
+                    .as("error rate of %s at %d users", endpoint, sloConcurrency)
+                    .isLessThanOrEqualTo(maxErrorRate);
+            Double p95Slo = environment.getProperty("loadtest.slo.p95-ms." + endpoint, Double.class);
+            if (p95Slo != null) {
+                assertThat(s.p95())
+                        .as("p95 of %s at %d users (SLO %.0f ms)", endpoint, sloConcurrency, p95Slo)
+                        .isLessThanOrEqualTo(p95Slo);
+            }
+        });
+    }
+
+    // Deletes go through ItemService so the render and shopping list caches stay in step
+    private void resetInventory() {
+        itemService.findAllActive().forEach(item -> itemService.deleteItem(item.getId()));
+        itemService.findFinishedItems().forEach(item -> itemService.deleteItem(item.getId()));
+
+        Random random = new Random(randomSeed);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < seedItems; i++) {
+            items.add(randomItem(random));
+        }
+        itemService.saveAll(items);
+    }
+
+    private LatencyRecorder runLevel(int concurrency, int seconds) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long[] deadline = new long[1];
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(randomSeed * 31 + i);
+                users.add(executor.submit(() -> {
+                    HouseholdClient client = new HouseholdClient("http://localhost:" + port);
+                    client.login(password);
+                    ready.countDown();
+                    start.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        perform(client, Action.pick(random), random, recorder);
+                    }
+                    return null;
+                }));
+            }
+
+            // Start the clock only once every user has logged in, otherwise the level would be
+            // measured at a lower concurrency than it is reported under
+            assertThat(ready.await(30, TimeUnit.SECONDS))
+                    .as("all %d users logged in within 30 s", concurrency)
+                    .isTrue();
+            deadline[0] = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            start.countDown();
+            for (Future<?> user : users) {
+                user.get();
+            }
+            return recorder;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void perform(HouseholdClient client, Action action, Random random, LatencyRecorder recorder)
+            throws InterruptedException {
+        // Users act on items they can see; with nothing in view they look at the dashboard first
+        if ((action == Action.CONSUME || action == Action.FINISH) && client.visibleItemIds().isEmpty()) {
+            action = Action.DASHBOARD;
+        }
+        String endpoint = action.name().toLowerCase();
+        long started = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = switch (action) {
+                case DASHBOARD -> client.get("/");
+                case DASHBOARD_FILTERED -> client.get("/?location=" + pick(random, LOCATIONS)
+                        + "&category=" + HouseholdClient.encode(pick(random, CATEGORIES)));
+                case SUGGEST_CATEGORY -> client.get("/api/suggest-category?name="
+                        + HouseholdClient.encode(pick(random, NAMES)));
+                case HISTORY -> client.get("/history");
+                case ADD_ITEM -> {
+                    Item item = randomItem(random);
+                    yield client.postForm("/add", Map.of(
+                            "name", item.getName(),
+                            "quantity", item.getQuantity().toPlainString(),
+                            "unit", item.getUnit(),
+                            "location", item.getLocation(),
+                            "category", item.getCategory(),
+                            "expirationDate", item.getExpirationDate().toString(),
+                            "notes", ""));
+                }
+                case CONSUME -> client.postForm("/consume/" + pickVisible(client, random), Map.of("amount", "1"));
+                case FINISH -> {
+                    long id = pickVisible(client, random);
+                    client.forgetVisibleItem(id);
+                    yield client.postForm("/finish/" + id, Map.of());
+                }
+            };
+        } catch (IOException e) {
+            // Timeouts and connection resets are what saturation looks like, so they count as errors
+            recorder.record(endpoint, System.nanoTime() - started, false);
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+
+        if (action == Action.DASHBOARD || action == Action.DASHBOARD_FILTERED) {
+            client.rememberVisibleItems(response.body());
+        }
+        recorder.record(endpoint, elapsed, HouseholdClient.isSuccess(response));
+    }
+
+    private Item randomItem(Random random) {
+        Item item = new Item();
+        item.setName(pick(random, NAMES));
+        item.setQuantity(BigDecimal.valueOf(1 + random.nextInt(11)));
+        item.setUnit(pick(random, UNITS));
+        item.setLocation(pick(random, LOCATIONS));
+        item.setCategory(pick(random, CATEGORIES));
+        item.setExpirationDate(LocalDate.now().plusDays(random.nextInt(35) - 5));
+        return item;
+    }
+
+    private static long pickVisible(HouseholdClient client, Random random) {
+        List<Long> ids = client.visibleItemIds();
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,60 @@
+package com.ghe.fridgeinvetary.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects request latencies and errors per endpoint for one concurrency level.
+ */
+class LatencyRecorder {
+
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        List<Long> samples = latencies.computeIfAbsent(endpoint, e -> new ArrayList<>());
+        synchronized (samples) {
+            samples.add(nanos);
+        }
+        if (!success) {
+            errors.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Summarize everything recorded so far, sorted by endpoint name.
+     */
+    Map<String, EndpointStats> summarize(double elapsedSeconds) {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        latencies.forEach((endpoint, samples) -> {
+            long[] sorted;
+            synchronized (samples) {
+                sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            long errorCount = errors.getOrDefault(endpoint, new AtomicLong()).get();
+            stats.put(endpoint, new EndpointStats(sorted.length, errorCount,
+                    sorted.length / elapsedSeconds,
+                    percentileMillis(sorted, 50), percentileMillis(sorted, 95), percentileMillis(sorted, 99)));
+        });
+        return stats;
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMillis(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000.0;
+    }
+
+    record EndpointStats(long requests, long errors, double throughput, double p50, double p95, double p99) {
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.ghe.fridgeinvetary.service;
+
+import com.ghe.fridgeinvetary.config.InventorySettings;
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.repository.ItemRepository;
+import com.ghe.fridgeinvetary.service.FragmentCacheService.ItemRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FragmentCacheServiceTests {
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ITemplateEngine templateEngine = mock(ITemplateEngine.class);
+    private final TransactionOperations transactions = mock(TransactionOperations.class);
+    private final Clock clock = mock(Clock.class);
+    private FragmentCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        when(clock.getZone()).thenReturn(ZoneOffset.UTC);
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-01T12:00:00Z"));
+        when(transactions.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        service = new FragmentCacheService(itemRepository, templateEngine,
+                new InventorySettings(3, new BigDecimal("2")), transactions, clock);
+        when(templateEngine.process(anyString(), anySet(), any(IContext.class))).thenReturn("<div></div>");
+    }
+
+    @Test
+    void rendersEachRowOnlyOnce() {
+        List<Item> items = List.of(item(1L, "Milk", "1"), item(2L, "Eggs", "6"));
+
+        List<ItemRow> first = service.getDashboardRows(items);
+        List<ItemRow> second = service.getDashboardRows(items);
+
+        assertThat(second).containsExactlyElementsOf(first);
+        verifyRenders(2);
+    }
+
+    @Test
+    void evictReRendersOnlyTheChangedRow() {
+        service.getDashboardRows(List.of(item(1L, "Milk", "1"), item(2L, "Eggs", "6")));
+
+        service.evict(1L);
+        service.getDashboardRows(List.of(item(1L, "Milk", "1"), item(2L, "Eggs", "6")));
+
+        verifyRenders(3);
+    }
+
+    @Test
+    void reRendersWhenLoadedItemNoLongerMatchesSnapshot() {
+        // A reader that raced a write may have cached the old state after the eviction
+        ItemRow stale = service.getDashboardRows(List.of(item(1L, "Milk", "3"))).get(0);
+
+        ItemRow fresh = service.getDashboardRows(List.of(item(1L, "Milk", "1"))).get(0);
+
+        assertThat(fresh).isNotSameAs(stale);
+        assertThat(fresh.getItem().getQuantity()).isEqualByComparingTo("1");
+        assertThat(fresh.isLowQuantity()).isTrue();
+        verifyRenders(2);
+    }
+
+    @Test
+    void dayRolloverReRendersEverything() {
+        List<Item> items = List.of(item(1L, "Milk", "1"), item(2L, "Eggs", "6"));
+        service.getDashboardRows(items);
+
+        when(clock.instant()).thenReturn(Instant.parse("2026-01-02T12:00:00Z"));
+        service.getDashboardRows(items);
+        service.getDashboardRows(items);
+
+        verifyRenders(4);
+    }
+
+    @Test
+    void filterOptionsAreCachedUntilEvicted() {
+        when(itemRepository.findDistinctLocations()).thenReturn(List.of("fridge"));
+        when(itemRepository.findDistinctCategories()).thenReturn(List.of("Dairy"));
+
+        service.getFilterOptions();
+        service.getFilterOptions();
+        service.evict(1L);
+        service.getFilterOptions();
+
+        verify(itemRepository, times(2)).findDistinctLocations();
+        // Cache hits don't open a transaction
+        verify(transactions, times(2)).execute(any());
+    }
+
+    private void verifyRenders(int count) {
+        verify(templateEngine, times(count)).process(anyString(), anySet(), any(IContext.class));
+    }
+
+    private static Item item(Long id, String name, String quantity) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setUnit("pcs");
+        item.setLocation("fridge");
+        item.setPurchaseDate(LocalDateTime.of(2026, 1, 1, 12, 0));
+        return item;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ghe.fridgeinvetary.service;
+
+import com.ghe.fridgeinvetary.config.InventorySettings;
+import com.ghe.fridgeinvetary.entity.Item;
+import com.ghe.fridgeinvetary.repository.ItemRepository;
+import com.ghe.fridgeinvetary.service.ShoppingListService.ShoppingListItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShoppingListServiceTests {
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final ShoppingListService service =
+            new ShoppingListService(itemRepository, new InventorySettings(3, new BigDecimal("2")), new BigDecimal("2"),
+                    TransactionOperations.withoutTransaction());
+
+    @Test
+    void groupsItemsByNormalizedNameAndUnitAcrossLocations() {
+        when(itemRepository.findByFinishedFalseOrderByExpirationDateAsc()).thenReturn(List.of(
+                item(1L, "Milk", "L", "fridge", "1", null),
+                item(2L, " milk ", "l", "pantry", "0.5", null),
+                item(3L, "Rice", "kg", "pantry", "5", null)));
+
+        List<ShoppingListItem> list = service.getShoppingList();
+
+        assertThat(list).hasSize(1);
+        ShoppingListItem milk = list.get(0);
+        assertThat(milk.remainingQuantity()).isEqualByComparingTo("1.5");
+        assertThat(milk.suggestedQuantity()).isEqualByComparingTo("2.5");
+        assertThat(milk.locations()).containsExactly("fridge", "pantry");
+        assertThat(milk.lowStock()).isTrue();
+    }
+
+    @Test
+    void flagsStockThatIsAboutToExpire() {
+        when(itemRepository.findByFinishedFalseOrderByExpirationDateAsc()).thenReturn(List.of(
+                item(1L, "Yogurt", "pcs", "fridge", "4", LocalDate.now().plusDays(1)),
+                item(2L, "Yogurt", "pcs", "fridge", "1", LocalDate.now().plusDays(20))));
+
+        ShoppingListItem yogurt = service.getShoppingList().get(0);
+
+        assertThat(yogurt.lowStock()).isFalse();
+        assertThat(yogurt.expiringSoon()).isTrue();
+        assertThat(yogurt.earliestExpiration()).isEqualTo(LocalDate.now().plusDays(1));
+        assertThat(yogurt.suggestedQuantity()).isEqualByComparingTo("3");
+    }
+
+    @Test
+    void skipsExpiringProductsWithEnoughUsableStock() {
+        when(itemRepository.findByFinishedFalseOrderByExpirationDateAsc()).thenReturn(List.of(
+                item(1L, "Eggs", "pcs", "fridge", "1", LocalDate.now().plusDays(1)),
+                item(2L, "Eggs", "pcs", "fridge", "9", LocalDate.now().plusDays(20))));
+
+        assertThat(service.getShoppingList()).isEmpty();
+    }
+
+    @Test
+    void appliesMutationsWithoutRescanning() {
+        when(itemRepository.findByFinishedFalseOrderByExpirationDateAsc()).thenReturn(List.of(item(1L, "Eggs", "pcs", "fridge", "10", null)));
+        assertThat(service.getShoppingList()).isEmpty();
+
+        service.onItemSaved(item(1L, "Eggs", "pcs", "fridge", "1", null));
+        assertThat(service.getShoppingList()).extracting(ShoppingListItem::name).containsExactly("Eggs");
+
+        // Finished items leave the totals, so a used-up product is not listed forever
+        Item finished = item(1L, "Eggs", "pcs", "fridge", "0", null);
+        finished.setFinished(true);
+        service.onItemSaved(finished);
+        assertThat(service.getShoppingList()).isEmpty();
+
+        service.onItemSaved(item(1L, "Eggs", "pcs", "fridge", "1", null));
+        service.onItemDeleted(1L);
+        assertThat(service.getShoppingList()).isEmpty();
+
+        verify(itemRepository, times(1)).findByFinishedFalseOrderByExpirationDateAsc();
+    }
+
+    @Test
+    void nameFollowsItemsStillInTheProduct() {
+        when(itemRepository.findByFinishedFalseOrderByExpirationDateAsc()).thenReturn(List.of(
+                item(1L, "Milk", "L", "fridge", "1", null),
+                item(2L, "milk", "L", "pantry", "0.5", null)));
+        assertThat(service.getShoppingList().get(0).name()).isEqualTo("milk");
+
+        service.onItemDeleted(2L);
+        assertThat(service.getShoppingList().get(0).name()).isEqualTo("Milk");
+
+        service.onItemSaved(item(1L, "Oat Milk", "L", "fridge", "1", null));
+        assertThat(service.getShoppingList()).extracting(ShoppingListItem::name).containsExactly("Oat Milk");
+    }
+
+    private static Item item(Long id, String name, String unit, String location, String quantity, LocalDate expires) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setUnit(unit);
+        item.setLocation(location);
+        item.setQuantity(new BigDecimal(quantity));
+        item.setExpirationDate(expires);
+        return item;
+    }
+}